@@ -0,0 +1,61 @@
+package com.demo.controller;
+
+import com.demo.model.Job;
+import com.demo.service.JobLookupService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Local writes to the job list, applied on top of the jobs API feed.
+ * Enabled by setting matcher.jobs.write-api.enabled to true.
+ */
+@RestController
+@Api("Job API")
+@ConditionalOnProperty(value = "matcher.jobs.write-api.enabled", havingValue = "true")
+@RequestMapping(value = "matcher-api/job")
+public class JobController {
+
+    private JobLookupService jobLookupService;
+
+    @Autowired
+    public JobController(JobLookupService jobLookupService) {
+        this.jobLookupService = jobLookupService;
+    }
+
+    @PutMapping(value = "/{id}")
+    @ApiOperation(value = "Adds a job, or replaces the job with the same id", response = ResponseEntity.class)
+    public ResponseEntity upsertJob(@PathVariable @ApiParam("job id") String id, @RequestBody Job job) {
+        try{
+            job.setJobId(id);
+            jobLookupService.upsertJob(job);
+            return ResponseEntity.ok(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping(value = "/{id}")
+    @ApiOperation(value = "Deletes a job", response = ResponseEntity.class)
+    public ResponseEntity deleteJob(@PathVariable @ApiParam("job id") String id) {
+        try{
+            return jobLookupService.deleteJob(id)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+}
@@ -1,19 +1,25 @@
 package com.demo.controller;
 
 import com.demo.model.Job;
+import com.demo.service.JobResponseEncoder;
 import com.demo.service.WorkerLookupService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @Api("Worker API")
@@ -22,9 +28,12 @@ public class WorkerController {
 
     private WorkerLookupService workerLookupService;
 
+    private JobResponseEncoder jobResponseEncoder;
+
     @Autowired
-    public WorkerController(WorkerLookupService workerLookupService) {
+    public WorkerController(WorkerLookupService workerLookupService, JobResponseEncoder jobResponseEncoder) {
         this.workerLookupService = workerLookupService;
+        this.jobResponseEncoder = jobResponseEncoder;
     }
 
     @GetMapping(value = "/{id}/jobs")
@@ -36,12 +45,23 @@ public class WorkerController {
             "           b. Worker must have all the required certificates that the job demands.\n" +
             "           c. If the job has a requirement that applicant must possess drivers license, then worker must possess drivers license. Otherwise, it does not matter if worker has one or not.\n" +
             "           d. The job location must be within the worker's preferred max job distance.\n" +
-            "           f. The job starting date must fall on a day that the worked is available based on his/her preference.",
+            "           f. The job starting date must fall on a day that the worked is available based on his/her preference.\n" +
+            "     * If days is provided, only jobs starting between today and that many days from today are considered.\n" +
+            "     * If fields is provided, only those job properties are returned.\n" +
+            "     * Jobs are returned as JSON, or as Smile (binary JSON) when the Accept header asks for application/x-jackson-smile.",
             response = ResponseEntity.class)
-    public ResponseEntity getJobsMatherForWorkers(@PathVariable @ApiParam("worker id") String id) {
+    public ResponseEntity getJobsMatherForWorkers(@PathVariable @ApiParam("worker id") String id,
+                                                  @RequestParam(required = false) @ApiParam("number of days from today the job must start within") Integer days,
+                                                  @RequestParam(required = false) @ApiParam("comma separated job properties to return") Set<String> fields,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try{
-            List<Job> jobList = workerLookupService.getMatchingJobsForWorker(id);
-            return ResponseEntity.ok(jobList);
+            List<Job> jobList = days == null
+                    ? workerLookupService.getMatchingJobsForWorker(id)
+                    : workerLookupService.getMatchingJobsForWorker(id, days);
+            MediaType mediaType = jobResponseEncoder.selectMediaType(accept);
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .body(jobResponseEncoder.encode(jobList, mediaType, fields));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
         }
@@ -1,16 +1,17 @@
 package com.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Data
-@Builder
-@AllArgsConstructor
 @NoArgsConstructor
 public class Job {
 
@@ -18,7 +19,7 @@ public class Job {
     private List<String> requiredCertificates;
     private Location location;
     private String billRate;
-    private Integer workersRequired;
+    private int workersRequired;
     private String startDate;
     private String about;
     private String jobTitle;
@@ -26,8 +27,52 @@ public class Job {
     private String guid;
     private String jobId;
 
+    // Parsed once whenever the bill rate is set, so ranking jobs does not parse it on every comparison
+    @Setter(AccessLevel.NONE)
+    private double numericBillingRate = Double.NaN;
+
+    @Builder
+    public Job(boolean driverLicenseRequired, List<String> requiredCertificates, Location location, String billRate,
+               int workersRequired, String startDate, String about, String jobTitle, String company, String guid, String jobId) {
+        this.driverLicenseRequired = driverLicenseRequired;
+        this.requiredCertificates = requiredCertificates;
+        this.location = location;
+        this.workersRequired = workersRequired;
+        this.startDate = startDate;
+        this.about = about;
+        this.jobTitle = jobTitle;
+        this.company = company;
+        this.guid = guid;
+        this.jobId = jobId;
+        setBillRate(billRate);
+    }
+
+    public void setBillRate(String billRate) {
+        this.billRate = billRate;
+        this.numericBillingRate = parseBillingRate(billRate);
+    }
+
+    /**
+     * @return bill rate without its currency sign, NaN if the bill rate is missing or malformed
+     */
     @JsonIgnore
-    public Double getNumericBillingRate() {
-        return Double.valueOf(this.getBillRate().substring(1));
+    public double getNumericBillingRate() {
+        return numericBillingRate;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getStartDateTime() {
+        return LocalDateTime.parse(this.getStartDate(), DateTimeFormatter.ISO_DATE_TIME);
+    }
+
+    private static double parseBillingRate(String billRate) {
+        if (billRate == null || billRate.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(billRate.substring(1));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
     }
 }
@@ -11,7 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class JobSearchAddress {
     private String unit;
-    private Integer maxJobDistance;
-    private Double longitude;
-    private Double latitude;
+    private int maxJobDistance;
+    private double longitude;
+    private double latitude;
 }
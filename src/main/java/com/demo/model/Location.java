@@ -10,6 +10,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Location {
-    private Double longitude;
-    private Double latitude;
+    private double longitude;
+    private double latitude;
 }
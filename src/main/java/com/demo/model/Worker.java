@@ -13,19 +13,35 @@ import java.util.List;
 @NoArgsConstructor
 public class Worker {
 
-    private Integer rating;
-    private Boolean isActive;
+    private int rating;
+    private boolean isActive;
     private List<String> certificates;
     private List<String> skills;
     private JobSearchAddress jobSearchAddress;
     private String transportation;
-    private Boolean hasDriversLicense;
+    private boolean hasDriversLicense;
     private List<WorkerAvailability> availability;
     private String phone;
     private String email;
     private WorkerName name;
-    private Integer age;
+    private int age;
     private String guid;
     private String userId;
 
+    // Explicit accessors keep the isActive/hasDriversLicense JSON property names now that the fields are primitives
+    public boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public boolean getHasDriversLicense() {
+        return hasDriversLicense;
+    }
+
+    public void setHasDriversLicense(boolean hasDriversLicense) {
+        this.hasDriversLicense = hasDriversLicense;
+    }
 }
@@ -11,5 +11,5 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class WorkerAvailability {
     private String title;
-    private Integer dayIndex;
+    private int dayIndex;
 }
@@ -0,0 +1,22 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+
+import java.util.Collection;
+
+/**
+ * Callback for changes to the jobs held by {@link JobLookupService}
+ */
+public interface JobChangeListener {
+
+    /**
+     * Called after jobs have been reloaded from the jobs API
+     */
+    void jobsLoaded();
+
+    /**
+     * Called after single jobs have been added, replaced or deleted
+     * @param changedJobs the added jobs, and the previous versions of replaced or deleted jobs
+     */
+    void jobsChanged(Collection<Job> changedJobs);
+}
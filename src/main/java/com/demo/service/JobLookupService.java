@@ -1,36 +1,357 @@
 package com.demo.service;
 
 import com.demo.model.Job;
-import lombok.Data;
+import com.demo.model.JobSearchAddress;
+import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.demo.util.HeapFootprintUtil.estimateRetainedSizePerRecord;
+import static com.demo.util.StringDedupUtil.dedup;
 
 @Service
-@Data
 public class JobLookupService {
 
+    private static final Logger log = LoggerFactory.getLogger(JobLookupService.class);
+
     private RestTemplate restTemplate;
 
-    private List<Job> jobList;
+    private JobShardRouter shardRouter;
+
+    private List<JobShard> shards;
+
+    private ExecutorService shardExecutor;
+
+    private int nextShardToRefresh;
+
+    private volatile List<Job> jobList;
+
+    // Incremented whenever jobList is replaced
+    private volatile long snapshotVersion;
+
+    // Jobs upserted or deleted locally, replayed over every shard refresh until the jobs API feed catches up with them
+    private Map<String, Job> upsertedJobs = new HashMap<>();
+
+    private Set<String> deletedJobIds = new HashSet<>();
+
+    private List<JobChangeListener> jobChangeListeners = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public JobLookupService(RestTemplate restTemplate) {
+    public JobLookupService(RestTemplate restTemplate,
+                            @Value("${matcher.shards.count:1}") int shardCount,
+                            @Value("${matcher.shards.cell-degrees:1.0}") double cellDegrees) {
         this.restTemplate = restTemplate;
+        this.shardRouter = new JobShardRouter(shardCount, cellDegrees);
+        this.shards = IntStream.range(0, shardCount)
+                .mapToObj(JobShard::new)
+                .collect(Collectors.toList());
     }
 
     @PostConstruct
     public void post() {
-        jobList = new ArrayList<>();
-        jobList.addAll(pullJobListFromAPI());
+        if (isSharded()) {
+            shardExecutor = Executors.newFixedThreadPool(shards.size());
+        }
+        Map<Integer, List<Job>> jobsByShard = groupByShard(pullJobListFromAPI());
+        LocalDate today = LocalDate.now();
+        shards.forEach(shard -> shard.load(jobsByShard.getOrDefault(shard.getId(), new ArrayList<>()), today));
+        jobList = collectShardJobs();
+        snapshotVersion++;
+        log.info("loaded {} jobs into {} shards", jobList.size(), shards.size());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (shardExecutor != null) {
+            shardExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Reloads the next shard in turn from the jobs API. The jobs API has no region filter, so the whole feed is pulled,
+     * but only the refreshed shard is rebuilt, plus the shards that jobs moved into or out of it since the last load.
+     * Jobs upserted or deleted through {@link #upsertJob(Job)} and {@link #deleteJob(String)} keep their changes
+     * until the feed holds the same upserted job, or no longer holds the deleted job.
+     * Disabled unless matcher.shards.refresh-cron is set.
+     */
+    @Scheduled(cron = "${matcher.shards.refresh-cron:-}")
+    public synchronized void refreshNextShard() {
+        JobShard shard = shards.get(nextShardToRefresh);
+        nextShardToRefresh = (nextShardToRefresh + 1) % shards.size();
+        List<Job> pulledJobs = pullJobListFromAPI();
+        pruneLocalChanges(pulledJobs);
+        Map<Integer, List<Job>> jobsByShard = groupByShard(applyLocalChanges(pulledJobs));
+        List<Job> refreshedJobs = jobsByShard.getOrDefault(shard.getId(), new ArrayList<>());
+        Set<String> refreshedJobIds = jobIds(refreshedJobs);
+        Set<String> previousJobIds = jobIds(shard.getJobList());
+        Map<JobShard, List<Job>> changedShards = new LinkedHashMap<>();
+        changedShards.put(shard, refreshedJobs);
+        for (JobShard otherShard : shards) {
+            if (otherShard == shard) {
+                continue;
+            }
+            // Jobs that moved into the refreshed shard leave their old shard, jobs that moved out of it join their new one
+            List<Job> movedOutJobs = jobsByShard.getOrDefault(otherShard.getId(), new ArrayList<>())
+                    .stream()
+                    .filter(job -> previousJobIds.contains(job.getJobId()))
+                    .collect(Collectors.toList());
+            Set<String> replacedJobIds = jobIds(movedOutJobs);
+            List<Job> otherShardJobs = otherShard.getJobList()
+                    .stream()
+                    .filter(job -> !refreshedJobIds.contains(job.getJobId()) && !replacedJobIds.contains(job.getJobId()))
+                    .collect(Collectors.toList());
+            if (otherShardJobs.size() != otherShard.getJobList().size() || !movedOutJobs.isEmpty()) {
+                otherShardJobs.addAll(movedOutJobs);
+                changedShards.put(otherShard, otherShardJobs);
+            }
+        }
+        swapShards(changedShards);
+        log.info("refreshed shard {} with {} jobs", shard.getId(), shard.getJobList().size());
+        jobChangeListeners.forEach(JobChangeListener::jobsLoaded);
+    }
+
+    /**
+     * Adds a job, or replaces the job with the same job id. An invalid job leaves the jobs unchanged.
+     * @param job
+     * @throws IllegalArgumentException if a field needed for matching is missing or malformed
+     */
+    public synchronized void upsertJob(Job job) {
+        validate(job);
+        List<Job> changedJobs = new ArrayList<>();
+        Map<JobShard, List<Job>> changedShards = shardsWithoutJob(job.getJobId(), changedJobs);
+        JobShard shard = shards.get(shardRouter.shardOf(job.getLocation()));
+        List<Job> shardJobs = changedShards.getOrDefault(shard, new ArrayList<>(shard.getJobList()));
+        shardJobs.add(deduplicate(job));
+        changedShards.put(shard, shardJobs);
+        swapShards(changedShards);
+        upsertedJobs.put(job.getJobId(), job);
+        deletedJobIds.remove(job.getJobId());
+        changedJobs.add(job);
+        jobChangeListeners.forEach(listener -> listener.jobsChanged(changedJobs));
+    }
+
+    /**
+     * Deletes the job with the given job id
+     * @param jobId
+     * @return true if the job existed
+     */
+    public synchronized boolean deleteJob(String jobId) {
+        List<Job> removedJobs = new ArrayList<>();
+        Map<JobShard, List<Job>> changedShards = shardsWithoutJob(jobId, removedJobs);
+        if (removedJobs.isEmpty()) {
+            return false;
+        }
+        swapShards(changedShards);
+        upsertedJobs.remove(jobId);
+        deletedJobIds.add(jobId);
+        jobChangeListeners.forEach(listener -> listener.jobsChanged(removedJobs));
+        return true;
+    }
+
+    public List<Job> getJobList() {
+        return jobList;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public void addJobChangeListener(JobChangeListener listener) {
+        jobChangeListeners.add(listener);
+    }
+
+    /**
+     * @return true if jobs are split into more than one shard
+     */
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    /**
+     * Scatter-gather lookup of the top jobs around a worker's search address. Only the shards that may hold jobs
+     * within the worker's max job distance are queried, in parallel. Each shard returns its own top jobs
+     * which are then merged.
+     * @param searchAddress
+     * @param candidates matching jobs of a shard
+     * @param order
+     * @param limit
+     * @return List of {@link Job}
+     */
+    public List<Job> findTopJobs(JobSearchAddress searchAddress, Function<JobShard, Stream<Job>> candidates, Comparator<Job> order, int limit) {
+        List<JobShard> targetShards = shardRouter.shardsWithin(searchAddress.getLatitude(), searchAddress.getLongitude(),
+                        searchAddress.getMaxJobDistance(), searchAddress.getUnit())
+                .stream()
+                .map(shards::get)
+                .collect(Collectors.toList());
+        if (targetShards.size() == 1) {
+            return topJobs(candidates.apply(targetShards.get(0)), order, limit);
+        }
+        List<CompletableFuture<List<Job>>> shardResults = targetShards
+                .stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> topJobs(candidates.apply(shard), order, limit), shardExecutor))
+                .collect(Collectors.toList());
+        return topJobs(shardResults
+                .stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream), order, limit);
+    }
+
+    /**
+     * Returns jobs starting between the given dates (both inclusive) on any of the given days of week.
+     * Jobs that have already started are not returned.
+     * @param days
+     * @param from
+     * @param to
+     * @return List of {@link Job}
+     */
+    public List<Job> getJobsStartingBetween(Collection<DayOfWeek> days, LocalDate from, LocalDate to) {
+        return shards
+                .stream()
+                .flatMap(shard -> shard.getJobsStartingBetween(days, from, to).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Evicts jobs that have already started from the start date indexes. Runs every day at midnight.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictExpiredJobs() {
+        LocalDate today = LocalDate.now();
+        shards.forEach(shard -> shard.evictJobsStartingBefore(today));
+    }
+
+    private List<Job> topJobs(Stream<Job> jobs, Comparator<Job> order, int limit) {
+        return jobs
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks the fields matching depends on, so a bad job is rejected before any shard changes
+     * @param job
+     */
+    private void validate(Job job) {
+        Preconditions.checkArgument(job != null, "Job cannot be empty");
+        Preconditions.checkArgument(!StringUtils.isEmpty(job.getJobId()), "Job ID cannot be empty");
+        Preconditions.checkArgument(job.getLocation() != null, "Job location cannot be empty");
+        Preconditions.checkArgument(job.getRequiredCertificates() != null, "Job required certificates cannot be empty");
+        Preconditions.checkArgument(!StringUtils.isEmpty(job.getBillRate()), "Job bill rate cannot be empty");
+        Preconditions.checkArgument(!StringUtils.isEmpty(job.getStartDate()), "Job start date cannot be empty");
+        Preconditions.checkArgument(!Double.isNaN(job.getNumericBillingRate()), "Job bill rate is malformed: %s", job.getBillRate());
+        try {
+            job.getStartDateTime();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Job start date is malformed: " + job.getStartDate(), e);
+        }
+    }
+
+    /**
+     * Computes the contents of the shards holding the given job without it. No shard is changed.
+     * @param jobId
+     * @param removedJobs receives the jobs with the given job id
+     * @return new jobs of every shard that held the job
+     */
+    private Map<JobShard, List<Job>> shardsWithoutJob(String jobId, List<Job> removedJobs) {
+        Map<JobShard, List<Job>> changedShards = new LinkedHashMap<>();
+        for (JobShard shard : shards) {
+            List<Job> shardJobs = new ArrayList<>();
+            shard.getJobList().forEach(job -> (jobId.equals(job.getJobId()) ? removedJobs : shardJobs).add(job));
+            if (shardJobs.size() != shard.getJobList().size()) {
+                changedShards.put(shard, shardJobs);
+            }
+        }
+        return changedShards;
+    }
+
+    /**
+     * Builds the new contents of every changed shard first, then swaps them all in and replaces jobList,
+     * so a failure while building leaves every shard as it was
+     * @param changedShards
+     */
+    private void swapShards(Map<JobShard, List<Job>> changedShards) {
+        LocalDate today = LocalDate.now();
+        Map<JobShard, JobShard.Contents> preparedShards = new LinkedHashMap<>();
+        changedShards.forEach((shard, jobs) -> preparedShards.put(shard, JobShard.prepare(jobs, today)));
+        preparedShards.forEach(JobShard::swap);
+        jobList = collectShardJobs();
+        snapshotVersion++;
+    }
+
+    /**
+     * Forgets local changes the jobs API feed has caught up with: upserted jobs the feed now holds unchanged,
+     * and deleted jobs the feed no longer holds. Later feed versions of those jobs are then loaded as usual.
+     * @param jobs pulled from the jobs API
+     */
+    private void pruneLocalChanges(List<Job> jobs) {
+        Set<String> pulledJobIds = jobIds(jobs);
+        jobs.stream()
+                .filter(job -> job.equals(upsertedJobs.get(job.getJobId())))
+                .forEach(job -> upsertedJobs.remove(job.getJobId()));
+        deletedJobIds.retainAll(pulledJobIds);
+    }
+
+    /**
+     * Replays jobs upserted or deleted locally over jobs pulled from the jobs API
+     * @param jobs
+     * @return List of {@link Job}
+     */
+    private List<Job> applyLocalChanges(List<Job> jobs) {
+        List<Job> changedJobs = jobs
+                .stream()
+                .filter(job -> !deletedJobIds.contains(job.getJobId()) && !upsertedJobs.containsKey(job.getJobId()))
+                .collect(Collectors.toList());
+        changedJobs.addAll(upsertedJobs.values());
+        return changedJobs;
+    }
+
+    private Set<String> jobIds(Collection<Job> jobs) {
+        return jobs
+                .stream()
+                .map(Job::getJobId)
+                .collect(Collectors.toSet());
+    }
+
+    private Map<Integer, List<Job>> groupByShard(List<Job> jobs) {
+        return jobs
+                .stream()
+                .collect(Collectors.groupingBy(job -> shardRouter.shardOf(job.getLocation())));
+    }
+
+    private List<Job> collectShardJobs() {
+        List<Job> jobs = new ArrayList<>();
+        shards.forEach(shard -> jobs.addAll(shard.getJobList()));
+        return jobs;
     }
 
     private List<Job> pullJobListFromAPI() {
@@ -39,6 +360,29 @@ public class JobLookupService {
         HttpEntity<String> entity = new HttpEntity<String>(headers);
 
         ResponseEntity<Job[]> responseEntity = restTemplate.exchange("http://test.swipejobs.com/api/jobs", HttpMethod.GET, entity, Job[].class);
-        return Arrays.asList(responseEntity.getBody());
+        return deduplicate(Arrays.asList(responseEntity.getBody()));
+    }
+
+    /**
+     * Replaces repeated strings of the jobs, such as company names, job titles and certificate names, with shared instances
+     * @param jobs
+     * @return the same jobs
+     */
+    private List<Job> deduplicate(List<Job> jobs) {
+        long sizeBefore = log.isDebugEnabled() ? estimateRetainedSizePerRecord(jobs) : 0;
+        jobs.forEach(this::deduplicate);
+        if (log.isDebugEnabled()) {
+            log.debug("estimated heap per job: {} bytes before deduplication, {} bytes after",
+                    sizeBefore, estimateRetainedSizePerRecord(jobs));
+        }
+        return jobs;
+    }
+
+    private Job deduplicate(Job job) {
+        job.setRequiredCertificates(dedup(job.getRequiredCertificates()));
+        job.setBillRate(dedup(job.getBillRate()));
+        job.setJobTitle(dedup(job.getJobTitle()));
+        job.setCompany(dedup(job.getCompany()));
+        return job;
     }
 }
@@ -0,0 +1,210 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes job lists as JSON or Smile (binary JSON).
+ * Each job of the current job snapshot is serialized once per format and the fragments are cached,
+ * so a full response is assembled by concatenating fragments between the array start and end bytes.
+ * Projected responses are built from a cached tree of each job, without serializing the job again.
+ * Fragments are rebuilt when {@link JobLookupService} reports a job change, never on the request path.
+ */
+@Component
+public class JobResponseEncoder implements JobChangeListener {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final byte[] JSON_ARRAY_START = {'['};
+    private static final byte[] JSON_ARRAY_END = {']'};
+    private static final byte JSON_SEPARATOR = ',';
+    private static final byte[] SMILE_ARRAY_END = {SmileConstants.TOKEN_LITERAL_END_ARRAY};
+
+    private JobLookupService jobLookupService;
+
+    private ObjectMapper jsonMapper;
+
+    private ObjectMapper smileMapper;
+
+    private byte[] smileArrayStart;
+
+    private volatile JobFragments fragments = new JobFragments(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    @Autowired
+    public JobResponseEncoder(JobLookupService jobLookupService, ObjectMapper jsonMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.jobLookupService = jobLookupService;
+        this.jsonMapper = jsonMapper;
+        // Fragments are concatenated, so they must not carry a header or back-references to names written in other fragments
+        SmileFactory smileFactory = new SmileFactory()
+                .configure(SmileGenerator.Feature.WRITE_HEADER, false)
+                .configure(SmileGenerator.Feature.CHECK_SHARED_NAMES, false)
+                .configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, false);
+        this.smileMapper = objectMapperBuilder.factory(smileFactory).build();
+        this.smileArrayStart = createSmileArrayStart(smileFactory);
+    }
+
+    @PostConstruct
+    public void post() {
+        jobLookupService.addJobChangeListener(this);
+        rebuildFragments();
+    }
+
+    @Override
+    public void jobsLoaded() {
+        rebuildFragments();
+    }
+
+    @Override
+    public void jobsChanged(Collection<Job> changedJobs) {
+        rebuildFragments();
+    }
+
+    /**
+     * Picks the response media type from the request's Accept header. Smile is used only when asked for explicitly,
+     * JSON otherwise.
+     * @param accept
+     * @return {@link MediaType}
+     */
+    public MediaType selectMediaType(String accept) {
+        if (StringUtils.isEmpty(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+        return acceptedMediaTypes
+                .stream()
+                .filter(mediaType -> !mediaType.isWildcardType())
+                .filter(mediaType -> APPLICATION_SMILE.includes(mediaType) || MediaType.APPLICATION_JSON.includes(mediaType))
+                .findFirst()
+                .map(mediaType -> APPLICATION_SMILE.includes(mediaType) ? APPLICATION_SMILE : MediaType.APPLICATION_JSON)
+                .orElse(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Encodes jobs as an array in the given media type. When fields are given, only those job properties are written.
+     * Jobs without a cached fragment are serialized on the fly.
+     * @param jobs
+     * @param mediaType either {@link MediaType#APPLICATION_JSON} or {@link #APPLICATION_SMILE}
+     * @param fields job properties to keep, all of them if empty or null
+     * @return encoded response body
+     * @throws IOException
+     */
+    public byte[] encode(List<Job> jobs, MediaType mediaType, Collection<String> fields) throws IOException {
+        boolean smile = APPLICATION_SMILE.equals(mediaType);
+        JobFragments current = fragments;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(smile ? smileArrayStart : JSON_ARRAY_START);
+        for (int i = 0; i < jobs.size(); i++) {
+            if (!smile && i > 0) {
+                out.write(JSON_SEPARATOR);
+            }
+            out.write(encodeJob(jobs.get(i), smile, fields, current));
+        }
+        out.write(smile ? SMILE_ARRAY_END : JSON_ARRAY_END);
+        return out.toByteArray();
+    }
+
+    private byte[] encodeJob(Job job, boolean smile, Collection<String> fields, JobFragments current) throws IOException {
+        ObjectMapper mapper = smile ? smileMapper : jsonMapper;
+        if (!CollectionUtils.isEmpty(fields)) {
+            ObjectNode tree = current.trees.get(job);
+            return mapper.writeValueAsBytes(project(tree != null ? tree : jsonMapper.valueToTree(job), fields));
+        }
+        byte[] fragment = smile ? current.smile.get(job) : current.json.get(job);
+        return fragment != null ? fragment : mapper.writeValueAsBytes(job);
+    }
+
+    /**
+     * Rebuilds the fragments for the current job snapshot, on the thread that changed the jobs.
+     * Fragments of jobs carried over from the previous snapshot are reused, so only new jobs are serialized.
+     */
+    private synchronized void rebuildFragments() {
+        List<Job> jobList = jobLookupService.getJobList();
+        JobFragments current = fragments;
+        if (current.source == jobList || jobList == null) {
+            return;
+        }
+        Map<Job, byte[]> json = new IdentityHashMap<>();
+        Map<Job, byte[]> smile = new IdentityHashMap<>();
+        Map<Job, ObjectNode> trees = new IdentityHashMap<>();
+        for (Job job : jobList) {
+            json.put(job, current.json.containsKey(job) ? current.json.get(job) : serialize(jsonMapper, job));
+            smile.put(job, current.smile.containsKey(job) ? current.smile.get(job) : serialize(smileMapper, job));
+            trees.put(job, current.trees.containsKey(job) ? current.trees.get(job) : jsonMapper.valueToTree(job));
+        }
+        fragments = new JobFragments(jobList, json, smile, trees);
+    }
+
+    /**
+     * Builds a projection of a cached job tree holding only the given properties, in the tree's order.
+     * Property values are shared with the cached tree, which is never modified.
+     * @param tree
+     * @param fields
+     * @return {@link ObjectNode}
+     */
+    private ObjectNode project(ObjectNode tree, Collection<String> fields) {
+        ObjectNode projection = jsonMapper.createObjectNode();
+        tree.fields().forEachRemaining(field -> {
+            if (fields.contains(field.getKey())) {
+                projection.set(field.getKey(), field.getValue());
+            }
+        });
+        return projection;
+    }
+
+    private static byte[] serialize(ObjectMapper mapper, Job job) {
+        try {
+            return mapper.writeValueAsBytes(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] createSmileArrayStart(SmileFactory smileFactory) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SmileGenerator generator = smileFactory.createGenerator(out)) {
+            generator.writeHeader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write(SmileConstants.TOKEN_LITERAL_START_ARRAY);
+        return out.toByteArray();
+    }
+
+    /**
+     * Pre-serialized jobs of one job snapshot, keyed by job instance, with the JSON trees projections are built from
+     */
+    private static class JobFragments {
+        private final List<Job> source;
+        private final Map<Job, byte[]> json;
+        private final Map<Job, byte[]> smile;
+        private final Map<Job, ObjectNode> trees;
+
+        private JobFragments(List<Job> source, Map<Job, byte[]> json, Map<Job, byte[]> smile, Map<Job, ObjectNode> trees) {
+            this.source = source;
+            this.json = json;
+            this.smile = smile;
+            this.trees = trees;
+        }
+    }
+}
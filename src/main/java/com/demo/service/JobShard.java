@@ -0,0 +1,94 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One partition of the job list, holding its own jobs and start date index.
+ * A shard is reloaded as a whole, independently of the other shards. New contents are prepared first and then
+ * swapped in at once, so readers never see the jobs of one load with the index of another.
+ */
+public class JobShard {
+
+    private final int id;
+
+    private volatile Contents contents = prepare(Collections.emptyList(), LocalDate.now());
+
+    public JobShard(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Builds the contents of a shard without touching any shard
+     * @param jobs
+     * @param today jobs starting before this date are left out of the start date index
+     * @return {@link Contents} to pass to {@link #swap(Contents)}
+     */
+    public static Contents prepare(Collection<Job> jobs, LocalDate today) {
+        List<Job> jobList = Collections.unmodifiableList(new ArrayList<>(jobs));
+        return new Contents(jobList, new JobStartDateIndex(jobList, today));
+    }
+
+    /**
+     * Replaces the jobs of this shard with contents built by {@link #prepare(Collection, LocalDate)}
+     * @param contents
+     */
+    public void swap(Contents contents) {
+        this.contents = contents;
+    }
+
+    /**
+     * Replaces the jobs of this shard
+     * @param jobs
+     * @param today jobs starting before this date are left out of the start date index
+     */
+    public void load(Collection<Job> jobs, LocalDate today) {
+        swap(prepare(jobs, today));
+    }
+
+    /**
+     * Returns jobs of this shard starting between the given dates (both inclusive) on any of the given days of week
+     * @param days
+     * @param from
+     * @param to
+     * @return List of {@link Job}
+     */
+    public List<Job> getJobsStartingBetween(Collection<DayOfWeek> days, LocalDate from, LocalDate to) {
+        return contents.startDateIndex.findJobsStartingBetween(days, from, to);
+    }
+
+    /**
+     * Evicts jobs starting before the given date from the start date index
+     * @param date
+     */
+    public void evictJobsStartingBefore(LocalDate date) {
+        contents.startDateIndex.evictJobsStartingBefore(date);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public List<Job> getJobList() {
+        return contents.jobList;
+    }
+
+    /**
+     * Jobs of a shard together with their start date index
+     */
+    public static class Contents {
+        private final List<Job> jobList;
+        private final JobStartDateIndex startDateIndex;
+
+        private Contents(List<Job> jobList, JobStartDateIndex startDateIndex) {
+            this.jobList = jobList;
+            this.startDateIndex = startDateIndex;
+        }
+    }
+}
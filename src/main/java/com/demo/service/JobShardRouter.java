@@ -0,0 +1,99 @@
+package com.demo.service;
+
+import com.demo.model.Location;
+import com.google.common.base.Preconditions;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Maps job locations to shards. The map is cut into square cells of {@code cellDegrees} latitude by longitude
+ * and every cell is hashed to one of {@code shardCount} shards, so jobs close to each other share a shard.
+ */
+public class JobShardRouter {
+
+    // Shortest length of one degree of latitude, so the search box never undershoots the search radius
+    private static final double MIN_KM_PER_DEGREE = 110.5;
+    private static final double KM_PER_MILE = 1.609344;
+    private static final int MAX_CELLS_TO_ENUMERATE = 10000;
+
+    private final int shardCount;
+
+    private final double cellDegrees;
+
+    public JobShardRouter(int shardCount, double cellDegrees) {
+        Preconditions.checkArgument(shardCount > 0, "Shard count must be positive");
+        Preconditions.checkArgument(cellDegrees > 0, "Shard cell size must be positive");
+        this.shardCount = shardCount;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Returns the shard a job at the given location belongs to. Jobs without a location go to the first shard.
+     * @param location
+     * @return shard id
+     */
+    public int shardOf(Location location) {
+        if (location == null) {
+            return 0;
+        }
+        return shardOfCell(cellOf(location.getLatitude()), cellOf(location.getLongitude()));
+    }
+
+    /**
+     * Returns the shards holding every job that may be within the given distance of a location
+     * @param latitude
+     * @param longitude
+     * @param distance
+     * @param unit "km" for kilometers, miles otherwise, same as {@link com.demo.util.GeoUtil#distance}
+     * @return Set of shard ids
+     */
+    public Set<Integer> shardsWithin(double latitude, double longitude, double distance, String unit) {
+        if (shardCount == 1) {
+            return allShards();
+        }
+        double distanceKm = "km".equals(unit) ? distance : distance * KM_PER_MILE;
+        double latitudeDelta = distanceKm / MIN_KM_PER_DEGREE;
+        double farthestLatitude = Math.min(90, Math.abs(latitude) + latitudeDelta);
+        double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(farthestLatitude));
+        if (farthestLatitude >= 90 || longitude - longitudeDelta < -180 || longitude + longitudeDelta > 180) {
+            return allShards();
+        }
+        long minLatitudeCell = cellOf(latitude - latitudeDelta);
+        long maxLatitudeCell = cellOf(latitude + latitudeDelta);
+        long minLongitudeCell = cellOf(longitude - longitudeDelta);
+        long maxLongitudeCell = cellOf(longitude + longitudeDelta);
+        if ((maxLatitudeCell - minLatitudeCell + 1) * (maxLongitudeCell - minLongitudeCell + 1) > MAX_CELLS_TO_ENUMERATE) {
+            return allShards();
+        }
+        Set<Integer> shards = new TreeSet<>();
+        for (long latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+            for (long longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                shards.add(shardOfCell(latitudeCell, longitudeCell));
+                if (shards.size() == shardCount) {
+                    return shards;
+                }
+            }
+        }
+        return shards;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    private long cellOf(double degrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private int shardOfCell(long latitudeCell, long longitudeCell) {
+        return Math.floorMod(Objects.hash(latitudeCell, longitudeCell), shardCount);
+    }
+
+    private Set<Integer> allShards() {
+        return IntStream.range(0, shardCount).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+}
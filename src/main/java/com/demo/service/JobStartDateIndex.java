@@ -0,0 +1,99 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Partitions jobs by the day of week of their start date and, within each day, by start date.
+ * Lookups for a date range on a set of days only touch the matching partitions.
+ */
+public class JobStartDateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JobStartDateIndex.class);
+
+    private final Map<DayOfWeek, ConcurrentSkipListMap<LocalDate, List<Job>>> partitions = new EnumMap<>(DayOfWeek.class);
+
+    /**
+     * Builds the index from the given jobs. Jobs that started before {@code today} are left out,
+     * as are jobs whose start date cannot be parsed.
+     * @param jobs
+     * @param today
+     */
+    public JobStartDateIndex(Collection<Job> jobs, LocalDate today) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            partitions.put(day, new ConcurrentSkipListMap<>());
+        }
+        jobs.stream()
+                .filter(job -> Objects.nonNull(job.getStartDate()))
+                .filter(this::hasValidStartDate)
+                .collect(Collectors.groupingBy(job -> job.getStartDateTime().toLocalDate()))
+                .forEach((startDate, jobsOnDate) -> {
+                    if (!startDate.isBefore(today)) {
+                        partitions.get(startDate.getDayOfWeek()).put(startDate, Collections.unmodifiableList(jobsOnDate));
+                    }
+                });
+    }
+
+    /**
+     * Checks that a job's start date parses, logging the job otherwise so one bad job in the feed cannot fail a load
+     * @param job
+     * @return boolean
+     */
+    private boolean hasValidStartDate(Job job) {
+        try {
+            job.getStartDateTime();
+            return true;
+        } catch (DateTimeParseException e) {
+            log.warn("skipping job {} with malformed start date {}", job.getJobId(), job.getStartDate());
+            return false;
+        }
+    }
+
+    /**
+     * Returns jobs starting between the given dates (both inclusive) on any of the given days of week
+     * @param days
+     * @param from
+     * @param to
+     * @return List of {@link Job}
+     */
+    public List<Job> findJobsStartingBetween(Collection<DayOfWeek> days, LocalDate from, LocalDate to) {
+        return days.stream()
+                .distinct()
+                .map(partitions::get)
+                .flatMap(partition -> partition.subMap(from, true, to, true).values().stream())
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes every job starting before the given date
+     * @param date
+     */
+    public void evictJobsStartingBefore(LocalDate date) {
+        partitions.values().forEach(partition -> partition.headMap(date).clear());
+    }
+
+    /**
+     * @return number of jobs currently held in the index
+     */
+    public int size() {
+        return partitions.values()
+                .stream()
+                .flatMap(partition -> partition.values().stream())
+                .mapToInt(List::size)
+                .sum();
+    }
+}
@@ -0,0 +1,164 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.demo.model.Worker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.demo.service.WorkerLookupService.normalizeWorkerId;
+
+/**
+ * Precomputes the matching jobs of every active worker, so their lookups become a map read.
+ * All matches are recomputed in the background after jobs are loaded. When single jobs change, only the workers
+ * whose skill, start day and distance partitions the job falls into are recomputed.
+ * Until a recomputation has finished, lookups return the previous matches.
+ * Enabled by setting matcher.materialize.enabled to true.
+ */
+@Service
+@ConditionalOnProperty(value = "matcher.materialize.enabled", havingValue = "true")
+public class MatchMaterializer implements JobChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchMaterializer.class);
+
+    private WorkerLookupService workerLookupService;
+
+    private JobLookupService jobLookupService;
+
+    private ExecutorService executor;
+
+    private volatile Map<String, List<Job>> matchingJobsByWorkerId = new ConcurrentHashMap<>();
+
+    private volatile Map<String, List<Worker>> activeWorkersBySkill = Collections.emptyMap();
+
+    @Autowired
+    public MatchMaterializer(WorkerLookupService workerLookupService, JobLookupService jobLookupService) {
+        this(workerLookupService, jobLookupService, Executors.newSingleThreadExecutor());
+    }
+
+    MatchMaterializer(WorkerLookupService workerLookupService, JobLookupService jobLookupService, ExecutorService executor) {
+        this.workerLookupService = workerLookupService;
+        this.jobLookupService = jobLookupService;
+        this.executor = executor;
+    }
+
+    @PostConstruct
+    public void post() {
+        jobLookupService.addJobChangeListener(this);
+        workerLookupService.setMatchMaterializer(this);
+        submit(this::materializeAll);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the precomputed matching jobs of a worker
+     * @param workerId
+     * @return List of {@link Job}, or null if the worker is not active or not materialized yet
+     */
+    public List<Job> getMatchingJobs(String workerId) {
+        return matchingJobsByWorkerId.get(normalizeWorkerId(workerId));
+    }
+
+    @Override
+    public void jobsLoaded() {
+        submit(this::materializeAll);
+    }
+
+    @Override
+    public void jobsChanged(Collection<Job> changedJobs) {
+        submit(() -> rematerialize(changedJobs));
+    }
+
+    /**
+     * Runs a materialization in the background, logging its failure since nobody waits for its result
+     * @param task
+     */
+    private void submit(Runnable task) {
+        executor.submit(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("could not materialize matching jobs", e);
+            }
+        });
+    }
+
+    private void materializeAll() {
+        List<Worker> activeWorkers = workerLookupService.getWorkerList()
+                .stream()
+                .filter(Worker::getIsActive)
+                .collect(Collectors.toList());
+        Map<String, List<Job>> materialized = new ConcurrentHashMap<>();
+        activeWorkers.forEach(worker -> materialize(worker, materialized));
+        Map<String, List<Worker>> workersBySkill = new HashMap<>();
+        // Workers without skills match no job, so they are never rematerialized
+        activeWorkers
+                .stream()
+                .filter(worker -> worker.getSkills() != null)
+                .forEach(worker -> worker.getSkills()
+                        .stream()
+                        .filter(Objects::nonNull)
+                        .forEach(skill -> workersBySkill.computeIfAbsent(skill.toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(worker)));
+        activeWorkersBySkill = workersBySkill;
+        matchingJobsByWorkerId = materialized;
+        log.info("materialized matching jobs for {} active workers", materialized.size());
+    }
+
+    private void rematerialize(Collection<Job> changedJobs) {
+        Set<Worker> affectedWorkers = Collections.newSetFromMap(new IdentityHashMap<>());
+        changedJobs.forEach(job -> activeWorkersBySkill
+                .getOrDefault(Objects.toString(job.getJobTitle(), "").toLowerCase(Locale.ROOT), Collections.emptyList())
+                .stream()
+                .filter(worker -> isAffectedBy(worker, job))
+                .forEach(affectedWorkers::add));
+        affectedWorkers.forEach(worker -> materialize(worker, matchingJobsByWorkerId));
+        log.debug("rematerialized matching jobs for {} workers after {} job changes", affectedWorkers.size(), changedJobs.size());
+    }
+
+    /**
+     * Checks whether a job falls into a worker's partitions. A worker whose profile cannot be checked is logged
+     * and skipped, so it does not stop the other workers from being rematerialized.
+     * @param worker
+     * @param job
+     * @return boolean
+     */
+    private boolean isAffectedBy(Worker worker, Job job) {
+        try {
+            return workerLookupService.filterByMatchingPartitions(worker).test(job);
+        } catch (RuntimeException e) {
+            log.warn("could not check job {} against worker {}", job.getJobId(), worker.getUserId(), e);
+            return false;
+        }
+    }
+
+    private void materialize(Worker worker, Map<String, List<Job>> materialized) {
+        try {
+            materialized.put(normalizeWorkerId(worker.getUserId()), Collections.unmodifiableList(workerLookupService.findMatchingJobs(worker)));
+        } catch (RuntimeException e) {
+            log.warn("could not materialize matching jobs for worker {}", worker.getUserId(), e);
+        }
+    }
+}
@@ -5,6 +5,10 @@ import com.demo.model.JobSearchAddress;
 import com.demo.model.Location;
 import com.demo.model.Worker;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -14,27 +18,48 @@ import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
 import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.demo.util.GeoUtil.distance;
+import static com.demo.util.HeapFootprintUtil.estimateRetainedSizePerRecord;
 import static com.demo.util.StreamUtil.chainPredicatesByAnd;
+import static com.demo.util.StringDedupUtil.dedup;
 
 @Service
 public class WorkerLookupService {
 
+    private static final Logger log = LoggerFactory.getLogger(WorkerLookupService.class);
+
+    private static final int MAX_MATCHING_JOBS = 3;
+
+    private static final Comparator<Job> HIGHEST_PAYING_FIRST = (j2, j1) -> Double.compare(rankedBillingRate(j1), rankedBillingRate(j2));
+
     private RestTemplate restTemplate;
 
     private JobLookupService jobLookupService;
 
     private List<Worker> workerList;
 
+    private volatile MatchMaterializer matchMaterializer;
+
+    private ConcurrentMap<String, CompletableFuture<List<Job>>> inFlightLookups = new ConcurrentHashMap<>();
+
     @Autowired
     public WorkerLookupService(RestTemplate restTemplate, JobLookupService jobLookupService) {
         this.restTemplate = restTemplate;
@@ -56,24 +81,164 @@ public class WorkerLookupService {
      *     Otherwise, it does not matter if worker has one or not.
      *  d. The job location must be within the worker's preferred max job distance.
      *  f. The job starting date must fall on a day that the worked is available based on his/her preference.
+     * Matches of active workers are served from the {@link MatchMaterializer} when it is enabled.
+     * Concurrent requests for the same worker share one lookup, see {@link #coalesce(String, Callable)}.
      * @param workerId
      * @return List of {@link Job} that match all the conditions defined above
      * @throws Exception when worker's ID is not found or empty
      */
     public List<Job> getMatchingJobsForWorker(String workerId) throws Exception {
-        Worker worker = getWorkerByID(workerId);
-        return jobLookupService.getJobList()
+        MatchMaterializer materializer = matchMaterializer;
+        if (materializer != null) {
+            List<Job> materializedJobs = materializer.getMatchingJobs(workerId);
+            if (materializedJobs != null) {
+                return materializedJobs;
+            }
+        }
+        return coalesce(lookupKey(workerId, "all"),
+                () -> findMatchingJobs(getWorkerByID(workerId)));
+    }
+
+    /**
+     * Finds the top 3 highest paying job matches for a worker, see {@link #getMatchingJobsForWorker(String)}
+     * @param worker
+     * @return List of {@link Job}
+     */
+    List<Job> findMatchingJobs(Worker worker) {
+        Predicate<Job> matchesWorker = chainPredicatesByAnd(filterByWorkerPreferences(worker), filterByAvailabilityDay(worker));
+        if (jobLookupService.isSharded()) {
+            return jobLookupService.findTopJobs(worker.getJobSearchAddress(),
+                    shard -> shard.getJobList().stream().filter(matchesWorker),
+                    HIGHEST_PAYING_FIRST, MAX_MATCHING_JOBS);
+        }
+        return getHighestPayingJobs(jobLookupService.getJobList()
+                .stream()
+                .filter(matchesWorker));
+    }
+
+    /**
+     * Method that accepts a worker ID and a number of days and returns top 3 highest paying job matches
+     * starting between today and that many days from today.
+     * Only the start date partitions of the days the worker is available on are scanned, the remaining
+     * conditions are the same as in {@link #getMatchingJobsForWorker(String)}.
+     * @param workerId
+     * @param days
+     * @return List of {@link Job} that match all the conditions
+     * @throws Exception when worker's ID is not found or empty, or days is negative
+     */
+    public List<Job> getMatchingJobsForWorker(String workerId, int days) throws Exception {
+        Preconditions.checkArgument(days >= 0, "Days cannot be negative");
+        return coalesce(lookupKey(workerId, String.valueOf(days)),
+                () -> findMatchingJobs(getWorkerByID(workerId), days));
+    }
+
+    /**
+     * Finds the top 3 highest paying job matches for a worker starting within the given number of days,
+     * see {@link #getMatchingJobsForWorker(String, int)}
+     * @param worker
+     * @param days
+     * @return List of {@link Job}
+     */
+    private List<Job> findMatchingJobs(Worker worker, int days) {
+        Set<DayOfWeek> availableDays = getAvailableDays(worker);
+        LocalDate today = LocalDate.now();
+        Predicate<Job> matchesWorker = filterByWorkerPreferences(worker);
+        if (jobLookupService.isSharded()) {
+            return jobLookupService.findTopJobs(worker.getJobSearchAddress(),
+                    shard -> shard.getJobsStartingBetween(availableDays, today, today.plusDays(days)).stream().filter(matchesWorker),
+                    HIGHEST_PAYING_FIRST, MAX_MATCHING_JOBS);
+        }
+        return getHighestPayingJobs(jobLookupService.getJobsStartingBetween(availableDays, today, today.plusDays(days))
                 .stream()
-                .filter(chainPredicatesByAnd(filterByMatchingSkillSet(worker),
-                        filterByRequiredCertificates(worker),
-                        filterByDriverLicenseRequirement(worker),
-                        filterByDistance(worker),
-                        filterByAvailabilityDay(worker)))
-                .sorted((j2, j1) -> Double.compare(j1.getNumericBillingRate(), j2.getNumericBillingRate()))
-                .limit(3)
+                .filter(matchesWorker));
+    }
+
+    /**
+     * Runs a lookup unless the same lookup is already in flight, in which case its result is shared.
+     * Lookups are keyed by worker, request parameters and job snapshot version, so a lookup started before
+     * the jobs changed is not shared with requests arriving afterwards. Nothing is kept once the lookup finishes.
+     * @param key
+     * @param lookup
+     * @return List of {@link Job}
+     * @throws Exception thrown by the lookup
+     */
+    private List<Job> coalesce(String key, Callable<List<Job>> lookup) throws Exception {
+        CompletableFuture<List<Job>> lookupResult = new CompletableFuture<>();
+        CompletableFuture<List<Job>> inFlightLookup = inFlightLookups.putIfAbsent(key, lookupResult);
+        if (inFlightLookup == null) {
+            try {
+                lookupResult.complete(lookup.call());
+            } catch (Throwable e) {
+                // Errors too, otherwise requests sharing this lookup would wait forever
+                lookupResult.completeExceptionally(e);
+            } finally {
+                inFlightLookups.remove(key, lookupResult);
+            }
+            inFlightLookup = lookupResult;
+        }
+        try {
+            return inFlightLookup.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the key of a lookup for {@link #coalesce(String, Callable)}. Worker ids are matched ignoring case,
+     * see {@link #getWorkerByID(String)}, so they are lower cased to share lookups of the same worker.
+     * @param workerId
+     * @param parameters
+     * @return lookup key
+     */
+    private String lookupKey(String workerId, String parameters) {
+        return normalizeWorkerId(workerId) + "/" + parameters + "@" + jobLookupService.getSnapshotVersion();
+    }
+
+    /**
+     * Returns the form of a worker id used as a key, lower cased as worker ids are matched ignoring case
+     * @param workerId
+     * @return normalized worker id
+     */
+    static String normalizeWorkerId(String workerId) {
+        return Objects.toString(workerId, "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns top 3 highest paying jobs out of the given jobs
+     * @param jobs
+     * @return List of {@link Job}
+     */
+    private List<Job> getHighestPayingJobs(Stream<Job> jobs) {
+        return jobs
+                .sorted(HIGHEST_PAYING_FIRST)
+                .limit(MAX_MATCHING_JOBS)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the bill rate jobs are ranked by. Jobs with a malformed bill rate, parsed as NaN, rank last.
+     * @param job
+     * @return bill rate
+     */
+    private static double rankedBillingRate(Job job) {
+        double billingRate = job.getNumericBillingRate();
+        return Double.isNaN(billingRate) ? Double.NEGATIVE_INFINITY : billingRate;
+    }
+
+    void setMatchMaterializer(MatchMaterializer matchMaterializer) {
+        this.matchMaterializer = matchMaterializer;
+    }
+
+    List<Worker> getWorkerList() {
+        return workerList;
+    }
+
     /**
      * Returns a worker with the same user id as provided by input param
      * @param id
@@ -102,21 +267,86 @@ public class WorkerLookupService {
         HttpEntity<String> entity = new HttpEntity(headers);
 
         ResponseEntity<Worker[]> responseEntity = restTemplate.exchange("http://test.swipejobs.com/api/workers", HttpMethod.GET, entity, Worker[].class);
-        return Arrays.asList(responseEntity.getBody());
+        return deduplicate(Arrays.asList(responseEntity.getBody()));
+    }
+
+    /**
+     * Replaces repeated strings of the workers, such as skills, certificate names and availability titles, with shared instances
+     * @param workers
+     * @return the same workers
+     */
+    private List<Worker> deduplicate(List<Worker> workers) {
+        long sizeBefore = log.isDebugEnabled() ? estimateRetainedSizePerRecord(workers) : 0;
+        workers.forEach(worker -> {
+            worker.setCertificates(dedup(worker.getCertificates()));
+            worker.setSkills(dedup(worker.getSkills()));
+            worker.setTransportation(dedup(worker.getTransportation()));
+            if (worker.getJobSearchAddress() != null) {
+                worker.getJobSearchAddress().setUnit(dedup(worker.getJobSearchAddress().getUnit()));
+            }
+            if (worker.getAvailability() != null) {
+                worker.getAvailability()
+                        .stream()
+                        .filter(Objects::nonNull)
+                        .forEach(availability -> availability.setTitle(dedup(availability.getTitle())));
+            }
+        });
+        if (log.isDebugEnabled()) {
+            log.debug("estimated heap per worker: {} bytes before deduplication, {} bytes after",
+                    sizeBefore, estimateRetainedSizePerRecord(workers));
+        }
+        return workers;
     }
 
     /**
-     * Method to create predicate that filters jobs whose start date matches worker's availability
+     * Method to create predicate that filters jobs matching worker's skill set, certificates, drivers license and distance
+     * @param worker
+     * @return {@link Predicate}
+     */
+    private Predicate<Job> filterByWorkerPreferences(Worker worker) {
+        return chainPredicatesByAnd(filterByMatchingSkillSet(worker),
+                filterByRequiredCertificates(worker),
+                filterByDriverLicenseRequirement(worker),
+                filterByDistance(worker));
+    }
+
+    /**
+     * Method to create predicate that filters jobs falling into the worker's skill, start day and distance partitions,
+     * regardless of certificates and drivers license. A job change can only affect the matches of workers it passes.
+     * @param worker
+     * @return {@link Predicate}
+     */
+    Predicate<Job> filterByMatchingPartitions(Worker worker) {
+        return chainPredicatesByAnd(filterByMatchingSkillSet(worker),
+                filterByAvailabilityDay(worker),
+                filterByDistance(worker));
+    }
+
+    /**
+     * Method to create predicate that filters jobs whose start date matches worker's availability.
+     * The available days are worked out when the first job is tested, and only once.
      * @param worker
      * @return {@link Predicate}
      */
     private Predicate<Job> filterByAvailabilityDay(Worker worker) {
-        return job -> worker.getAvailability()
+        Supplier<Set<DayOfWeek>> availableDays = Suppliers.memoize(() -> getAvailableDays(worker));
+        return job -> availableDays.get().contains(job.getStartDateTime().getDayOfWeek());
+    }
+
+    /**
+     * Returns the days of week the worker is available on, none if the worker has no availability
+     * @param worker
+     * @return Set of {@link DayOfWeek}
+     */
+    private Set<DayOfWeek> getAvailableDays(Worker worker) {
+        if (worker.getAvailability() == null) {
+            return Collections.emptySet();
+        }
+        return worker.getAvailability()
                 .stream()
                 .filter(Objects::nonNull)
                 .map(workerAvailability -> DayOfWeek.of(workerAvailability.getDayIndex()))
-                .collect(Collectors.toList())
-                .contains(LocalDateTime.parse(job.getStartDate(), DateTimeFormatter.ISO_DATE_TIME).getDayOfWeek());
+                .collect(Collectors.toSet());
     }
 
     /**
@@ -152,9 +382,9 @@ public class WorkerLookupService {
      * @return {@link Predicate}
      */
     private Predicate<Job> filterByMatchingSkillSet(Worker worker) {
-        return job -> worker.getSkills()
+        return job -> worker.getSkills() != null && worker.getSkills()
                 .stream()
-                .anyMatch(skill -> skill.equalsIgnoreCase(job.getJobTitle()));
+                .anyMatch(skill -> skill != null && skill.equalsIgnoreCase(job.getJobTitle()));
     }
 
     /**
@@ -0,0 +1,117 @@
+package com.demo.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class HeapFootprintUtil {
+
+    // Object layout of a 64-bit JVM with compressed references, Java 8 strings backed by a char array
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    /**
+     * Estimates the heap retained by a set of records. Objects shared between records, such as deduplicated strings,
+     * are counted once.
+     * Only model classes are inspected field by field, JDK types other than strings, boxed primitives and collections
+     * are counted as empty objects.
+     * @param records
+     * @return estimated size in bytes
+     */
+    public static long estimateRetainedSize(Collection<?> records) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        return records
+                .stream()
+                .mapToLong(record -> sizeOf(record, visited))
+                .sum();
+    }
+
+    /**
+     * Estimates the average heap retained per record over the first 1000 records
+     * @param records
+     * @return estimated size in bytes, 0 if there are no records
+     */
+    public static long estimateRetainedSizePerRecord(List<?> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        List<?> sample = records.subList(0, Math.min(records.size(), SAMPLE_SIZE));
+        return estimateRetainedSize(sample) / sample.size();
+    }
+
+    private static long sizeOf(Object object, Set<Object> visited) {
+        if (object == null || object instanceof Enum || !visited.add(object)) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return align(OBJECT_HEADER + REFERENCE + 4) + align(ARRAY_HEADER + 2L * ((String) object).length());
+        }
+        if (object instanceof Long || object instanceof Double) {
+            return align(OBJECT_HEADER + 8);
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return align(OBJECT_HEADER + 4);
+        }
+        if (object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            long size = align(OBJECT_HEADER + 3 * 4) + align(ARRAY_HEADER + (long) REFERENCE * collection.size());
+            for (Object element : collection) {
+                size += sizeOf(element, visited);
+            }
+            return size;
+        }
+        if (object.getClass().getName().startsWith("java.")) {
+            return align(OBJECT_HEADER);
+        }
+        long size = OBJECT_HEADER;
+        long referenced = 0;
+        for (Class<?> type = object.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (field.getType().isPrimitive()) {
+                    size += primitiveSize(field.getType());
+                } else {
+                    size += REFERENCE;
+                    referenced += sizeOf(readField(field, object), visited);
+                }
+            }
+        }
+        return align(size) + referenced;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static Object readField(Field field, Object object) {
+        try {
+            field.setAccessible(true);
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
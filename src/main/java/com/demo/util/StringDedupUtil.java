@@ -0,0 +1,38 @@
+package com.demo.util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class StringDedupUtil {
+
+    // Weakly referenced, so strings no longer used by any record are evicted on garbage collection
+    private static final Interner<String> CANONICAL_STRINGS = Interners.newWeakInterner();
+
+    /**
+     * Returns the canonical instance of a string, so that equal strings loaded from different records share one instance
+     * @param value
+     * @return canonical string
+     */
+    public static String dedup(String value) {
+        return value == null ? null : CANONICAL_STRINGS.intern(value);
+    }
+
+    /**
+     * Returns an unmodifiable, exactly sized copy of a list with every string replaced by its canonical instance
+     * @param values
+     * @return List of canonical strings
+     */
+    public static List<String> dedup(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(Arrays.asList(values
+                .stream()
+                .map(StringDedupUtil::dedup)
+                .toArray(String[]::new)));
+    }
+}
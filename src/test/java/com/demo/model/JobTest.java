@@ -0,0 +1,39 @@
+package com.demo.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JobTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void givenJobJson_whenDeserialized_thenBillRateParsed() throws Exception {
+        Job job = objectMapper.readValue("{\"billRate\":\"$17.60\",\"jobId\":\"19\"}", Job.class);
+        Assertions.assertEquals(17.60, job.getNumericBillingRate());
+    }
+
+    @Test
+    public void givenBillRateChanged_whenRead_thenNewBillRateParsed() {
+        Job job = Job.builder().billRate("$17.60").build();
+        Assertions.assertEquals(17.60, job.getNumericBillingRate());
+        job.setBillRate("$18.00");
+        Assertions.assertEquals(18.00, job.getNumericBillingRate());
+    }
+
+    @Test
+    public void givenMissingOrMalformedBillRate_whenRead_thenNaN() {
+        Assertions.assertTrue(Double.isNaN(Job.builder().build().getNumericBillingRate()));
+        Assertions.assertTrue(Double.isNaN(Job.builder().billRate("$").build().getNumericBillingRate()));
+        Assertions.assertTrue(Double.isNaN(Job.builder().billRate("$seventeen").build().getNumericBillingRate()));
+    }
+
+    @Test
+    public void givenJob_whenSerialized_thenParsedBillRateLeftOut() {
+        JsonNode json = objectMapper.valueToTree(Job.builder().billRate("$17.60").build());
+        Assertions.assertEquals("$17.60", json.get("billRate").textValue());
+        Assertions.assertFalse(json.has("numericBillingRate"));
+    }
+}
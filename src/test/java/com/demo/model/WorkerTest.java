@@ -0,0 +1,27 @@
+package com.demo.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class WorkerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void givenWorkerJson_whenDeserialized_thenFlagsRead() throws Exception {
+        Worker worker = objectMapper.readValue("{\"isActive\":true,\"hasDriversLicense\":true,\"rating\":3}", Worker.class);
+        Assertions.assertTrue(worker.getIsActive());
+        Assertions.assertTrue(worker.getHasDriversLicense());
+        Assertions.assertEquals(3, worker.getRating());
+    }
+
+    @Test
+    public void givenWorker_whenSerialized_thenFlagsKeepPropertyNames() {
+        JsonNode json = objectMapper.valueToTree(Worker.builder().isActive(true).hasDriversLicense(false).build());
+        Assertions.assertTrue(json.get("isActive").booleanValue());
+        Assertions.assertFalse(json.get("hasDriversLicense").booleanValue());
+        Assertions.assertFalse(json.has("active"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.demo.model.Location;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.demo.service.TestFixtures.createJob;
+import static com.demo.service.TestFixtures.mockJobFeeds;
+
+public class JobLookupServiceTest {
+
+    private static final int SHARD_COUNT = 8;
+    private static final double CELL_DEGREES = 0.1;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private Location firstLocation;
+
+    private Location secondLocation;
+
+    private JobLookupService underTest;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        JobShardRouter shardRouter = new JobShardRouter(SHARD_COUNT, CELL_DEGREES);
+        firstLocation = Location.builder().latitude(50.05).longitude(14.45).build();
+        secondLocation = firstLocation;
+        for (double longitude = 14.55; shardRouter.shardOf(secondLocation) == shardRouter.shardOf(firstLocation); longitude += CELL_DEGREES) {
+            secondLocation = Location.builder().latitude(50.05).longitude(longitude).build();
+        }
+        underTest = new JobLookupService(restTemplate, SHARD_COUNT, CELL_DEGREES);
+    }
+
+    @Test
+    public void givenJobMovedToAnotherShard_whenShardsRefreshed_thenJobHeldOnce() {
+        mockJobFeeds(restTemplate, Arrays.asList(
+                Arrays.asList(createJob("1", firstLocation), createJob("2", firstLocation)),
+                Arrays.asList(createJob("1", secondLocation), createJob("2", firstLocation))));
+        underTest.post();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            underTest.refreshNextShard();
+            Assertions.assertEquals(Arrays.asList("1", "2"), sortedJobIds(underTest.getJobList()));
+        }
+        Assertions.assertEquals(secondLocation, underTest.getJobList()
+                .stream()
+                .filter(job -> "1".equals(job.getJobId()))
+                .findFirst()
+                .get()
+                .getLocation());
+    }
+
+    @Test
+    public void givenUpsertedAndDeletedJobs_whenShardsRefreshed_thenChangesKept() {
+        mockJobFeeds(restTemplate, Arrays.asList(Arrays.asList(createJob("1", firstLocation), createJob("2", firstLocation))));
+        underTest.post();
+        underTest.upsertJob(createJob("3", secondLocation));
+        underTest.deleteJob("2");
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            underTest.refreshNextShard();
+            Assertions.assertEquals(Arrays.asList("1", "3"), sortedJobIds(underTest.getJobList()));
+        }
+    }
+
+    @Test
+    public void givenFeedCaughtUpWithLocalChanges_whenShardsRefreshed_thenChangesForgottenAndLaterFeedLoaded() {
+        Job upsertedJob = createJob("1", firstLocation);
+        upsertedJob.setBillRate("$18.00");
+        Job laterFeedJob = createJob("1", firstLocation);
+        laterFeedJob.setBillRate("$20.00");
+        List<List<Job>> feeds = new ArrayList<>();
+        feeds.add(Arrays.asList(createJob("1", firstLocation), createJob("2", firstLocation)));
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            Job caughtUpJob = createJob("1", firstLocation);
+            caughtUpJob.setBillRate("$18.00");
+            feeds.add(Arrays.asList(caughtUpJob));
+        }
+        feeds.add(Arrays.asList(laterFeedJob, createJob("2", firstLocation)));
+        mockJobFeeds(restTemplate, feeds);
+        underTest.post();
+        underTest.upsertJob(upsertedJob);
+        underTest.deleteJob("2");
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            underTest.refreshNextShard();
+        }
+        Assertions.assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(underTest, "upsertedJobs")).isEmpty());
+        Assertions.assertTrue(((Set<?>) ReflectionTestUtils.getField(underTest, "deletedJobIds")).isEmpty());
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            underTest.refreshNextShard();
+        }
+        Assertions.assertEquals(Arrays.asList("1", "2"), sortedJobIds(underTest.getJobList()));
+        Assertions.assertTrue(underTest.getJobList().contains(laterFeedJob));
+    }
+
+    @Test
+    public void givenInvalidJob_whenJobUpserted_thenExceptionThrownAndJobsUnchanged() {
+        mockJobFeeds(restTemplate, Arrays.asList(Arrays.asList(createJob("1", firstLocation), createJob("2", firstLocation))));
+        underTest.post();
+        Job existingJob = underTest.getJobList().get(0);
+        long snapshotVersion = underTest.getSnapshotVersion();
+        Job withoutLocation = createJob(existingJob.getJobId(), null);
+        Job withMalformedBillRate = createJob(existingJob.getJobId(), secondLocation);
+        withMalformedBillRate.setBillRate("$");
+        Job withMalformedStartDate = createJob(existingJob.getJobId(), secondLocation);
+        withMalformedStartDate.setStartDate("next monday");
+        for (Job invalidJob : Arrays.asList(withoutLocation, withMalformedBillRate, withMalformedStartDate)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> underTest.upsertJob(invalidJob));
+        }
+        Assertions.assertEquals(Arrays.asList("1", "2"), sortedJobIds(underTest.getJobList()));
+        Assertions.assertTrue(underTest.getJobList().contains(existingJob));
+        Assertions.assertEquals(snapshotVersion, underTest.getSnapshotVersion());
+    }
+
+    private List<String> sortedJobIds(List<Job> jobs) {
+        return jobs
+                .stream()
+                .map(Job::getJobId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
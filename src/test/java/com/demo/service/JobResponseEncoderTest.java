@@ -0,0 +1,149 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.demo.model.Location;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JobResponseEncoderTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @Mock
+    private JobLookupService jobLookupService;
+
+    private List<Job> jobList;
+
+    private JobResponseEncoder underTest;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        jobList = createTestJobs();
+        Mockito.when(jobLookupService.getJobList()).thenReturn(jobList);
+        underTest = new JobResponseEncoder(jobLookupService, jsonMapper, new Jackson2ObjectMapperBuilder());
+        underTest.post();
+    }
+
+    @Test
+    public void givenJobs_whenEncodedAsJson_thenSameAsJacksonSerialization() throws Exception {
+        byte[] actualResult = underTest.encode(jobList, MediaType.APPLICATION_JSON, null);
+        Assertions.assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsBytes(jobList)), jsonMapper.readTree(actualResult));
+    }
+
+    @Test
+    public void givenJobs_whenEncodedAsSmile_thenDecodesToSameJobs() throws Exception {
+        byte[] actualResult = underTest.encode(jobList, JobResponseEncoder.APPLICATION_SMILE, null);
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(actualResult);
+        Assertions.assertEquals(jsonMapper.valueToTree(jobList), decoded);
+    }
+
+    @Test
+    public void givenFields_whenEncoded_thenOnlyThoseFieldsReturned() throws Exception {
+        byte[] actualResult = underTest.encode(jobList, MediaType.APPLICATION_JSON, Arrays.asList("jobId", "billRate"));
+        JsonNode decoded = jsonMapper.readTree(actualResult);
+        Assertions.assertEquals(2, decoded.size());
+        decoded.forEach(job -> Assertions.assertEquals(Arrays.asList("billRate", "jobId"), sortedFieldNames(job)));
+    }
+
+    @Test
+    public void givenFields_whenEncodedAsSmile_thenProjectionLeavesCachedJobsIntact() throws Exception {
+        byte[] actualResult = underTest.encode(jobList, JobResponseEncoder.APPLICATION_SMILE, Arrays.asList("jobId"));
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(actualResult);
+        decoded.forEach(job -> Assertions.assertEquals(Arrays.asList("jobId"), sortedFieldNames(job)));
+        Assertions.assertEquals(jsonMapper.valueToTree(jobList),
+                new ObjectMapper(new SmileFactory()).readTree(underTest.encode(jobList, JobResponseEncoder.APPLICATION_SMILE, null)));
+        Assertions.assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsBytes(jobList)),
+                jsonMapper.readTree(underTest.encode(jobList, MediaType.APPLICATION_JSON, Arrays.asList("jobId", "billRate", "about",
+                        "location", "requiredCertificates", "driverLicenseRequired", "workersRequired", "startDate", "jobTitle",
+                        "company", "guid"))));
+    }
+
+    @Test
+    public void givenNoJobs_whenEncoded_thenEmptyArrayReturned() throws Exception {
+        Assertions.assertEquals("[]", new String(underTest.encode(Collections.emptyList(), MediaType.APPLICATION_JSON, null)));
+        Assertions.assertEquals(0, new ObjectMapper(new SmileFactory())
+                .readTree(underTest.encode(Collections.emptyList(), JobResponseEncoder.APPLICATION_SMILE, null)).size());
+    }
+
+    @Test
+    public void givenEncoder_whenCreated_thenRegisteredForJobChanges() {
+        Mockito.verify(jobLookupService).addJobChangeListener(underTest);
+    }
+
+    @Test
+    public void givenJobsChanged_whenEncoded_thenFragmentsRebuiltOnChangeNotOnRequest() throws Exception {
+        List<Job> changedJobList = new ArrayList<>(jobList);
+        Job changedJob = createTestJobs().get(0);
+        changedJob.setBillRate("$18.00");
+        changedJobList.set(0, changedJob);
+        Mockito.when(jobLookupService.getJobList()).thenReturn(changedJobList);
+        underTest.jobsChanged(Arrays.asList(jobList.get(0), changedJob));
+        Mockito.verify(jobLookupService, Mockito.times(2)).getJobList();
+        byte[] actualResult = underTest.encode(changedJobList, MediaType.APPLICATION_JSON, null);
+        Assertions.assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsBytes(changedJobList)), jsonMapper.readTree(actualResult));
+        Mockito.verify(jobLookupService, Mockito.times(2)).getJobList();
+    }
+
+    @Test
+    public void givenAcceptHeader_whenMediaTypeSelected_thenSmileOnlyWhenAskedFor() {
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, underTest.selectMediaType(null));
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, underTest.selectMediaType("*/*"));
+        Assertions.assertEquals(JobResponseEncoder.APPLICATION_SMILE, underTest.selectMediaType("application/x-jackson-smile"));
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, underTest.selectMediaType("application/json, application/x-jackson-smile;q=0.5"));
+    }
+
+    private List<String> sortedFieldNames(JsonNode node) {
+        List<String> fieldNames = new ArrayList<>();
+        node.fieldNames().forEachRemaining(fieldNames::add);
+        Collections.sort(fieldNames);
+        return fieldNames;
+    }
+
+    private List<Job> createTestJobs() {
+        Job maximind = Job.builder()
+                .driverLicenseRequired(false)
+                .requiredCertificates(Arrays.asList(
+                        "Outstanding Memory Award",
+                        "Calm in the Eye of the Storm"))
+                .location(Location.builder().longitude(14.453499).latitude(49.739001).build())
+                .billRate("$17.60")
+                .workersRequired(2)
+                .startDate("2015-11-03T09:45:47.56Z")
+                .about("Et nostrud aliquip ea velit.")
+                .jobTitle("Chief Troublemaker")
+                .company("Maximind")
+                .guid("562f66aa12b3d30a71d3cd89")
+                .jobId("19")
+                .build();
+        Job syntac = Job.builder()
+                .driverLicenseRequired(true)
+                .requiredCertificates(Arrays.asList(
+                        "Healthy Living Promoter"))
+                .location(Location.builder().longitude(14.580436).latitude(49.886497).build())
+                .billRate("$15.83")
+                .workersRequired(1)
+                .startDate("2015-11-15T11:23:34.31Z")
+                .about("Et nostrud aliquip ea velit.")
+                .jobTitle("Chief Cheerleader")
+                .company("Syntac")
+                .guid("562f66aa1ceec2fb3e8bb3a0")
+                .jobId("14")
+                .build();
+        return Arrays.asList(maximind, syntac);
+    }
+}
@@ -0,0 +1,51 @@
+package com.demo.service;
+
+import com.demo.model.Location;
+import com.demo.util.GeoUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class JobShardRouterTest {
+
+    private static final double WORKER_LATITUDE = 50.141097;
+    private static final double WORKER_LONGITUDE = 14.592614;
+
+    private final JobShardRouter underTest = new JobShardRouter(16, 0.1);
+
+    @Test
+    public void givenJobWithinDistance_whenShardsLookedUp_thenJobShardIncluded() {
+        Set<Integer> actualResult = underTest.shardsWithin(WORKER_LATITUDE, WORKER_LONGITUDE, 50, "km");
+        for (double latitude = 49.5; latitude <= 50.8; latitude += 0.01) {
+            for (double longitude = 13.8; longitude <= 15.4; longitude += 0.01) {
+                if (GeoUtil.distance(latitude, longitude, WORKER_LATITUDE, WORKER_LONGITUDE, "km") <= 50) {
+                    Assertions.assertTrue(actualResult.contains(underTest.shardOf(Location.builder().latitude(latitude).longitude(longitude).build())));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenSmallDistance_whenShardsLookedUp_thenOnlySomeShardsReturned() {
+        Set<Integer> actualResult = underTest.shardsWithin(WORKER_LATITUDE, WORKER_LONGITUDE, 1, "km");
+        Assertions.assertTrue(actualResult.size() < underTest.getShardCount());
+    }
+
+    @Test
+    public void givenDistanceCrossingAntimeridian_whenShardsLookedUp_thenAllShardsReturned() {
+        Assertions.assertEquals(underTest.getShardCount(), underTest.shardsWithin(0, 179.9, 50, "km").size());
+    }
+
+    @Test
+    public void givenInvalidShardConfiguration_whenRouterCreated_throwException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JobShardRouter(0, 0.1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JobShardRouter(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JobShardRouter(16, -1));
+    }
+
+    @Test
+    public void givenJobWithoutLocation_whenShardLookedUp_thenFirstShardReturned() {
+        Assertions.assertEquals(0, underTest.shardOf(null));
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JobStartDateIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2015, 11, 10);
+
+    private JobStartDateIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new JobStartDateIndex(createTestJobs(), TODAY);
+    }
+
+    @Test
+    public void givenJobsAlreadyStarted_whenIndexBuilt_thenJobsLeftOut() {
+        Assertions.assertEquals(3, underTest.size());
+    }
+
+    @Test
+    public void givenDateRangeAndDays_whenJobsLookedUp_thenOnlyJobsInRangeOnThoseDaysReturned() {
+        List<Job> actualResult = underTest.findJobsStartingBetween(Arrays.asList(DayOfWeek.THURSDAY, DayOfWeek.SATURDAY),
+                TODAY, TODAY.plusDays(7));
+        Assertions.assertEquals(Arrays.asList("29", "27"),
+                actualResult.stream().map(Job::getJobId).sorted(Collections.reverseOrder()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenDateRangeEndingBeforeJobStart_whenJobsLookedUp_thenNoJobsReturned() {
+        List<Job> actualResult = underTest.findJobsStartingBetween(Arrays.asList(DayOfWeek.values()),
+                TODAY, TODAY.plusDays(1));
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    public void givenJobsStartingBeforeDate_whenEvicted_thenJobsRemovedFromIndex() {
+        underTest.evictJobsStartingBefore(TODAY.plusDays(5));
+        Assertions.assertEquals(1, underTest.size());
+        Assertions.assertEquals("24", underTest.findJobsStartingBetween(Arrays.asList(DayOfWeek.values()),
+                TODAY, TODAY.plusDays(30)).get(0).getJobId());
+    }
+
+    @Test
+    public void givenJobWithMalformedStartDate_whenIndexBuilt_thenJobLeftOut() {
+        List<Job> jobs = new ArrayList<>(createTestJobs());
+        jobs.add(Job.builder().startDate("next monday").jobId("31").build());
+        Assertions.assertEquals(3, new JobStartDateIndex(jobs, TODAY).size());
+    }
+
+    private List<Job> createTestJobs() {
+        Job maximind = Job.builder()
+                .startDate("2015-11-03T09:45:47.56Z")
+                .jobId("19")
+                .build();
+        Job centice = Job.builder()
+                .startDate("2015-11-12T07:23:56.19Z")
+                .jobId("29")
+                .build();
+        Job nimon = Job.builder()
+                .startDate("2015-11-14T10:07:21.887Z")
+                .jobId("27")
+                .build();
+        Job pholio = Job.builder()
+                .startDate("2015-11-24T07:35:25.451Z")
+                .jobId("24")
+                .build();
+        return Arrays.asList(maximind, centice, nimon, pholio);
+    }
+}
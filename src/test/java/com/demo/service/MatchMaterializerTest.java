@@ -0,0 +1,157 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.demo.model.JobSearchAddress;
+import com.demo.model.Worker;
+import com.demo.model.WorkerAvailability;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.demo.service.TestFixtures.createJob;
+import static com.demo.service.TestFixtures.location;
+import static com.demo.service.TestFixtures.mockJobFeed;
+import static com.demo.service.TestFixtures.mockWorkerFeed;
+
+public class MatchMaterializerTest {
+
+    private static final String WORKER_ID = "8";
+    private static final String OTHER_WORKER_ID = "0";
+    private static final String WORKER_ID_WITHOUT_SKILLS = "5";
+    private static final String WORKER_ID_WITHOUT_SEARCH_ADDRESS = "6";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private JobLookupService jobLookupService;
+
+    private WorkerLookupService workerLookupService;
+
+    private MatchMaterializer underTest;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mockJobFeed(restTemplate, this::createTestJobs);
+        mockWorkerFeed(restTemplate, this::createTestWorkers);
+        jobLookupService = new JobLookupService(restTemplate, 1, 1.0);
+        jobLookupService.post();
+        workerLookupService = Mockito.spy(new WorkerLookupService(restTemplate, jobLookupService));
+        workerLookupService.post();
+        underTest = new MatchMaterializer(workerLookupService, jobLookupService, MoreExecutors.newDirectExecutorService());
+        underTest.post();
+        Mockito.clearInvocations(workerLookupService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.destroy();
+    }
+
+    @Test
+    public void givenActiveWorkers_whenMaterialized_thenMatchesOfWorkersWithSkillsMaterialized() {
+        Assertions.assertEquals(Arrays.asList("19", "29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+        Assertions.assertEquals(Arrays.asList(), underTest.getMatchingJobs(OTHER_WORKER_ID));
+        Assertions.assertEquals(Arrays.asList(), underTest.getMatchingJobs(WORKER_ID_WITHOUT_SKILLS));
+    }
+
+    @Test
+    public void givenWorkerIdInDifferentCase_whenMatchingJobsLookedUp_thenMaterializedJobsReturned() {
+        Worker worker = workerLookupService.getWorkerList().get(0);
+        worker.setUserId("Ab" + WORKER_ID);
+        underTest.jobsLoaded();
+        Assertions.assertEquals(Arrays.asList("19", "29"), jobIds(underTest.getMatchingJobs("aB" + WORKER_ID)));
+    }
+
+    @Test
+    public void givenJobUpsertedWithinWorkersPartitions_whenJobsChanged_thenOnlyThatWorkerRematerialized() {
+        jobLookupService.upsertJob(createJob("40", "Chief Troublemaker", location(50.141097, 14.592614), "$25.00", "2015-11-02T08:00:00Z"));
+        Mockito.verify(workerLookupService, Mockito.times(1)).findMatchingJobs(ArgumentMatchers.argThat(worker -> WORKER_ID.equals(worker.getUserId())));
+        Mockito.verify(workerLookupService, Mockito.times(1)).findMatchingJobs(ArgumentMatchers.any());
+        Assertions.assertEquals(Arrays.asList("40", "19", "29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+    }
+
+    @Test
+    public void givenWorkerWithoutSearchAddress_whenJobsChanged_thenOtherWorkersStillRematerialized() {
+        jobLookupService.upsertJob(createJob("40", "Chief Troublemaker", location(50.141097, 14.592614), "$25.00", "2015-11-02T08:00:00Z"));
+        Assertions.assertEquals(Arrays.asList("40", "19", "29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+        Assertions.assertNull(underTest.getMatchingJobs(WORKER_ID_WITHOUT_SEARCH_ADDRESS));
+    }
+
+    @Test
+    public void givenJobUpsertedOutsideWorkersPartitions_whenJobsChanged_thenNoWorkerRematerialized() {
+        jobLookupService.upsertJob(createJob("40", "Chief Troublemaker", location(40.712776, -74.005974), "$25.00", "2015-11-02T08:00:00Z"));
+        Mockito.verify(workerLookupService, Mockito.never()).findMatchingJobs(ArgumentMatchers.any());
+        Assertions.assertEquals(Arrays.asList("19", "29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+    }
+
+    @Test
+    public void givenMatchingJobDeleted_whenJobsChanged_thenWorkerRematerialized() {
+        jobLookupService.deleteJob("19");
+        Mockito.verify(workerLookupService, Mockito.times(1)).findMatchingJobs(ArgumentMatchers.any());
+        Assertions.assertEquals(Arrays.asList("29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+    }
+
+    @Test
+    public void givenJobOutsideWorkersPartitionsDeleted_whenJobsChanged_thenNoWorkerRematerialized() {
+        jobLookupService.deleteJob("31");
+        Mockito.verify(workerLookupService, Mockito.never()).findMatchingJobs(ArgumentMatchers.any());
+        Assertions.assertEquals(Arrays.asList("19", "29"), jobIds(underTest.getMatchingJobs(WORKER_ID)));
+    }
+
+    private List<String> jobIds(List<Job> jobs) {
+        return jobs
+                .stream()
+                .map(Job::getJobId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Job> createTestJobs() {
+        return Arrays.asList(
+                createJob("19", "Chief Troublemaker", location(49.739001, 14.453499), "$17.60", "2015-11-03T09:45:47.56Z"),
+                createJob("29", "The Resinator", location(50.180255, 14.082219), "$14.98", "2015-11-12T07:23:56.19Z"),
+                // Too far from the only worker with this skill
+                createJob("31", "Arts and Crafts Designer", location(50.141097, 14.592614), "$20.00", "2015-11-02T08:00:00Z"));
+    }
+
+    private List<Worker> createTestWorkers() {
+        Worker withoutSearchAddress = createWorker(WORKER_ID_WITHOUT_SEARCH_ADDRESS, Arrays.asList("Chief Troublemaker"), 50.141097, 14.592614, 50);
+        withoutSearchAddress.setJobSearchAddress(null);
+        return Arrays.asList(
+                createWorker(WORKER_ID, Arrays.asList("The Resinator", "Chief Troublemaker"), 50.141097, 14.592614, 50),
+                createWorker(OTHER_WORKER_ID, Arrays.asList("Creator of opportunities", "Arts and Crafts Designer"), 49.782281, 13.971284, 30),
+                createWorker(WORKER_ID_WITHOUT_SKILLS, null, 50.141097, 14.592614, 50),
+                withoutSearchAddress);
+    }
+
+    private Worker createWorker(String userId, List<String> skills, double latitude, double longitude, int maxJobDistance) {
+        return Worker.builder()
+                .isActive(true)
+                .certificates(Arrays.asList("Outstanding Memory Award"))
+                .skills(skills)
+                .jobSearchAddress(JobSearchAddress.builder()
+                        .unit("km")
+                        .maxJobDistance(maxJobDistance)
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .build())
+                .hasDriversLicense(true)
+                .availability(Arrays.asList(
+                        WorkerAvailability.builder().title("Monday").dayIndex(1).build(),
+                        WorkerAvailability.builder().title("Tuesday").dayIndex(2).build(),
+                        WorkerAvailability.builder().title("Thursday").dayIndex(4).build()))
+                .userId(userId)
+                .build();
+    }
+}
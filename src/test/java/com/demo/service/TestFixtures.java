@@ -0,0 +1,96 @@
+package com.demo.service;
+
+import com.demo.model.Job;
+import com.demo.model.Location;
+import com.demo.model.Worker;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Stubs of the jobs and workers APIs and job factories shared by the service tests
+ */
+final class TestFixtures {
+
+    private static final String JOBS_URL = "http://test.swipejobs.com/api/jobs";
+    private static final String WORKERS_URL = "http://test.swipejobs.com/api/workers";
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Stubs the jobs API to return new jobs from the given supplier on every pull
+     * @param restTemplate mock
+     * @param jobs
+     */
+    static void mockJobFeed(RestTemplate restTemplate, Supplier<List<Job>> jobs) {
+        Mockito.when(exchangeJobs(restTemplate))
+                .thenAnswer(invocation -> ResponseEntity.ok(jobs.get().toArray(new Job[0])));
+    }
+
+    /**
+     * Stubs the jobs API to return the given feeds one pull after another, repeating the last feed
+     * @param restTemplate mock
+     * @param feeds
+     */
+    @SuppressWarnings("unchecked")
+    static void mockJobFeeds(RestTemplate restTemplate, List<List<Job>> feeds) {
+        ResponseEntity<Job[]>[] responses = feeds
+                .stream()
+                .map(feed -> ResponseEntity.ok(feed.toArray(new Job[0])))
+                .toArray(ResponseEntity[]::new);
+        Mockito.when(exchangeJobs(restTemplate))
+                .thenReturn(responses[0], Arrays.copyOfRange(responses, 1, responses.length));
+    }
+
+    /**
+     * Stubs the workers API to return new workers from the given supplier on every pull
+     * @param restTemplate mock
+     * @param workers
+     */
+    static void mockWorkerFeed(RestTemplate restTemplate, Supplier<List<Worker>> workers) {
+        Mockito.when(
+                restTemplate.exchange(
+                ArgumentMatchers.eq(WORKERS_URL),
+                ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<String>>any(),
+                ArgumentMatchers.<Class<Worker[]>> any()))
+                .thenAnswer(invocation -> ResponseEntity.ok(workers.get().toArray(new Worker[0])));
+    }
+
+    static Job createJob(String jobId, Location location) {
+        return createJob(jobId, "The Resinator", location, "$14.98", "2015-11-12T07:23:56.19Z");
+    }
+
+    static Job createJob(String jobId, String jobTitle, Location location, String billRate, String startDate) {
+        return Job.builder()
+                .driverLicenseRequired(false)
+                .requiredCertificates(Arrays.asList("Outstanding Memory Award"))
+                .location(location)
+                .billRate(billRate)
+                .startDate(startDate)
+                .jobTitle(jobTitle)
+                .company("Centice")
+                .jobId(jobId)
+                .build();
+    }
+
+    static Location location(double latitude, double longitude) {
+        return Location.builder().latitude(latitude).longitude(longitude).build();
+    }
+
+    private static ResponseEntity<Job[]> exchangeJobs(RestTemplate restTemplate) {
+        return restTemplate.exchange(
+                ArgumentMatchers.eq(JOBS_URL),
+                ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<String>>any(),
+                ArgumentMatchers.<Class<Job[]>> any());
+    }
+}
@@ -14,18 +14,27 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class WorkerLookupServiceTest {
 
     private static final String WORKER_ID_WITH_MATCHING_JOBS = "8";
     private static final String WORKER_ID_WITH_NO_MATCHING_JOBS = "0";
+    private static final long TIMEOUT_SECONDS = 5;
     @Mock
     private RestTemplate restTemplate;
 
@@ -99,6 +108,142 @@ public class WorkerLookupServiceTest {
         Assertions.assertEquals(0, actualResult.size());
     }
 
+    @Test
+    public void givenDays_whenMatchingJobsAPICalled_thenOnlyWorkersAvailableDaysLookedUp() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        Mockito.when(jobLookupService.getJobsStartingBetween(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(jobList);
+        List<Job> actualResult = underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS, 7);
+        Assertions.assertEquals(3, actualResult.size());
+        Mockito.verify(jobLookupService).getJobsStartingBetween(
+                ArgumentMatchers.eq(EnumSet.complementOf(EnumSet.of(DayOfWeek.WEDNESDAY))),
+                ArgumentMatchers.eq(LocalDate.now()),
+                ArgumentMatchers.eq(LocalDate.now().plusDays(7)));
+    }
+
+    @Test
+    public void givenShardedJobs_whenMatchingJobsAPICalled_thenSameJobsAsUnsharded() throws Exception {
+        TestFixtures.mockJobFeed(restTemplate, this::createMatchingTestJobs);
+        JobLookupService unshardedJobLookupService = new JobLookupService(restTemplate, 1, 1.0);
+        JobLookupService shardedJobLookupService = new JobLookupService(restTemplate, 8, 0.1);
+        unshardedJobLookupService.post();
+        shardedJobLookupService.post();
+        WorkerLookupService unshardedWorkerLookupService = new WorkerLookupService(restTemplate, unshardedJobLookupService);
+        WorkerLookupService shardedWorkerLookupService = new WorkerLookupService(restTemplate, shardedJobLookupService);
+        unshardedWorkerLookupService.post();
+        shardedWorkerLookupService.post();
+        try {
+            Assertions.assertTrue(shardedJobLookupService.isSharded());
+            for (String workerId : Arrays.asList(WORKER_ID_WITH_MATCHING_JOBS, WORKER_ID_WITH_NO_MATCHING_JOBS)) {
+                Assertions.assertEquals(unshardedWorkerLookupService.getMatchingJobsForWorker(workerId),
+                        shardedWorkerLookupService.getMatchingJobsForWorker(workerId));
+            }
+            Assertions.assertEquals(3, shardedWorkerLookupService.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS).size());
+        } finally {
+            shardedJobLookupService.destroy();
+        }
+    }
+
+    @Test
+    public void givenNegativeDays_whenMatchingJobsAPICalled_throwException() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS, -1);
+        });
+        Assertions.assertEquals("Days cannot be negative", exception.getMessage());
+    }
+
+    @Test
+    public void givenMaterializedMatches_whenMatchingJobsAPICalled_thenMaterializedJobsReturned() throws Exception {
+        List<Job> materializedJobs = createMatchingTestJobs().subList(0, 1);
+        MatchMaterializer matchMaterializer = Mockito.mock(MatchMaterializer.class);
+        Mockito.when(matchMaterializer.getMatchingJobs(WORKER_ID_WITH_MATCHING_JOBS)).thenReturn(materializedJobs);
+        underTest.setMatchMaterializer(matchMaterializer);
+        Assertions.assertEquals(materializedJobs, underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS));
+        Mockito.verifyZeroInteractions(jobLookupService);
+    }
+
+    @Test
+    public void givenWorkerNotMaterialized_whenMatchingJobsAPICalled_thenMatchesComputed() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        Mockito.when(jobLookupService.getJobList()).thenReturn(jobList);
+        underTest.setMatchMaterializer(Mockito.mock(MatchMaterializer.class));
+        Assertions.assertEquals(3, underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS).size());
+    }
+
+    @Test
+    public void givenConcurrentRequestsForSameWorker_whenMatchingJobsAPICalled_thenJobsLookedUpOnce() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        Mockito.when(jobLookupService.getJobList()).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return jobList;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Job>> firstRequest = executor.submit(() -> underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS));
+            Assertions.assertTrue(lookupStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "lookup did not start");
+            AtomicReference<Thread> secondRequestThread = new AtomicReference<>();
+            Future<List<Job>> secondRequest = executor.submit(() -> {
+                secondRequestThread.set(Thread.currentThread());
+                return underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS);
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (secondRequestThread.get() == null || secondRequestThread.get().getState() != Thread.State.WAITING) {
+                if (System.nanoTime() > deadline) {
+                    Assertions.fail("second request did not wait for the first lookup");
+                }
+                Thread.sleep(10);
+            }
+            releaseLookup.countDown();
+            Assertions.assertEquals(3, firstRequest.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).size());
+            Assertions.assertSame(firstRequest.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), secondRequest.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            Mockito.verify(jobLookupService, Mockito.times(1)).getJobList();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenSequentialRequestsForSameWorker_whenMatchingJobsAPICalled_thenJobsLookedUpEachTime() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        Mockito.when(jobLookupService.getJobList()).thenReturn(jobList);
+        underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS);
+        underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS);
+        Mockito.verify(jobLookupService, Mockito.times(2)).getJobList();
+    }
+
+    @Test
+    public void givenLookupFailsWithError_whenMatchingJobsAPICalled_thenErrorThrownAndNextRequestLooksUp() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        Mockito.when(jobLookupService.getJobList()).thenThrow(new StackOverflowError()).thenReturn(jobList);
+        Assertions.assertThrows(StackOverflowError.class, () -> underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS));
+        Assertions.assertEquals(3, underTest.getMatchingJobsForWorker(WORKER_ID_WITH_MATCHING_JOBS).size());
+    }
+
+    @Test
+    public void givenWorkerIdsDifferingInCase_whenLookupKeysBuilt_thenKeysEqual() {
+        String lowerCaseKey = ReflectionTestUtils.invokeMethod(underTest, "lookupKey", "abc", "all");
+        String upperCaseKey = ReflectionTestUtils.invokeMethod(underTest, "lookupKey", "ABC", "all");
+        Assertions.assertEquals(lowerCaseKey, upperCaseKey);
+    }
+
+    @Test
+    public void givenWorkersWithoutUsableAvailability_whenMatchingJobsAPICalled_thenNoJobsReturned() throws Exception {
+        List<Job> jobList = createMatchingTestJobs();
+        Mockito.when(jobLookupService.getJobList()).thenReturn(jobList);
+        Worker withoutAvailability = createTestWorker().getBody()[0];
+        withoutAvailability.setUserId("20");
+        withoutAvailability.setAvailability(null);
+        Worker withInvalidDayWithoutMatchingSkills = createTestWorker().getBody()[1];
+        withInvalidDayWithoutMatchingSkills.setUserId("21");
+        withInvalidDayWithoutMatchingSkills.setAvailability(Arrays.asList(WorkerAvailability.builder().title("Someday").dayIndex(9).build()));
+        underTest.getWorkerList().addAll(Arrays.asList(createTestWorker().getBody()));
+        underTest.getWorkerList().addAll(Arrays.asList(withoutAvailability, withInvalidDayWithoutMatchingSkills));
+        Assertions.assertEquals(0, underTest.getMatchingJobsForWorker("20").size());
+        Assertions.assertEquals(0, underTest.getMatchingJobsForWorker("21").size());
+    }
+
     @Test
     public void givenInvalidWorkerId_whenMatchingJobsAPICalled_throwException() {
         Exception exception = Assertions.assertThrows(Exception.class, () -> {
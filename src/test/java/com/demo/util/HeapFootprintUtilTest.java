@@ -0,0 +1,52 @@
+package com.demo.util;
+
+import com.demo.model.Job;
+import com.demo.model.Location;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class HeapFootprintUtilTest {
+
+    @Test
+    public void givenString_whenEstimated_thenObjectAndCharArrayCounted() {
+        // 24 bytes of String object, 16 bytes of array header plus 2 bytes per char aligned to 8
+        Assertions.assertEquals(24 + 32, HeapFootprintUtil.estimateRetainedSize(Collections.singletonList("Nimon")));
+    }
+
+    @Test
+    public void givenSharedString_whenEstimated_thenCountedOnce() {
+        String company = "Maximind";
+        Job first = Job.builder().company(company).build();
+        Job second = Job.builder().company(company).build();
+        Job third = Job.builder().company(new String(company)).build();
+        long shared = HeapFootprintUtil.estimateRetainedSize(Arrays.asList(first, second));
+        long notShared = HeapFootprintUtil.estimateRetainedSize(Arrays.asList(first, third));
+        Assertions.assertEquals(HeapFootprintUtil.estimateRetainedSize(Collections.singletonList(company)), notShared - shared);
+    }
+
+    @Test
+    public void givenNestedModel_whenEstimated_thenReferencedObjectsIncluded() {
+        Job withoutLocation = Job.builder().build();
+        Job withLocation = Job.builder().location(Location.builder().latitude(49.739001).longitude(14.453499).build()).build();
+        // Location holds a 12 byte header and two doubles
+        Assertions.assertEquals(32, HeapFootprintUtil.estimateRetainedSize(Collections.singletonList(withLocation))
+                - HeapFootprintUtil.estimateRetainedSize(Collections.singletonList(withoutLocation)));
+    }
+
+    @Test
+    public void givenNoRecords_whenEstimated_thenZero() {
+        Assertions.assertEquals(0, HeapFootprintUtil.estimateRetainedSize(Collections.emptyList()));
+        Assertions.assertEquals(0, HeapFootprintUtil.estimateRetainedSizePerRecord(Collections.emptyList()));
+    }
+
+    @Test
+    public void givenRecords_whenEstimatedPerRecord_thenAverageReturned() {
+        Job first = Job.builder().company("Maximind").build();
+        Job second = Job.builder().company("Maximind").build();
+        Assertions.assertEquals(HeapFootprintUtil.estimateRetainedSize(Arrays.asList(first, second)) / 2,
+                HeapFootprintUtil.estimateRetainedSizePerRecord(Arrays.asList(first, second)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StringDedupUtilTest {
+
+    @Test
+    public void givenEqualStrings_whenDeduplicated_thenSameInstanceReturned() {
+        String first = new String("Chief Troublemaker");
+        String second = new String("Chief Troublemaker");
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(StringDedupUtil.dedup(first), StringDedupUtil.dedup(second));
+        Assertions.assertEquals("Chief Troublemaker", StringDedupUtil.dedup(second));
+    }
+
+    @Test
+    public void givenNull_whenDeduplicated_thenNullReturned() {
+        Assertions.assertNull(StringDedupUtil.dedup((String) null));
+        Assertions.assertNull(StringDedupUtil.dedup((List<String>) null));
+    }
+
+    @Test
+    public void givenList_whenDeduplicated_thenUnmodifiableCopyOfCanonicalStringsReturned() {
+        List<String> certificates = new ArrayList<>(Arrays.asList(new String("Office Lunch Expert"), new String("The Risk Taker")));
+        List<String> actualResult = StringDedupUtil.dedup(certificates);
+        Assertions.assertEquals(certificates, actualResult);
+        Assertions.assertSame(StringDedupUtil.dedup(new String("Office Lunch Expert")), actualResult.get(0));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> actualResult.add("Marvelous Multitasker"));
+    }
+}